@@ -8,6 +8,7 @@ package campusMap;
  */
 public class Buildings {
     private String name;
+    private OpeningHours openingHours = OpeningHours.ALWAYS_OPEN;
 
     /**
      * Constructs a Buildings object with the specified name.
@@ -27,6 +28,24 @@ public class Buildings {
         return name;
     }
 
+    /**
+     * Retrieves the opening hours of the building, which decide when routes may cut through it.
+     * 
+     * @return the opening hours; always open unless set
+     */
+    public OpeningHours getOpeningHours() {
+        return openingHours;
+    }
+
+    /**
+     * Sets the opening hours of the building.
+     * 
+     * @param openingHours the opening hours
+     */
+    public void setOpeningHours(OpeningHours openingHours) {
+        this.openingHours = openingHours;
+    }
+
     /**
      * Returns a string representation of the building.
      * 
@@ -5,6 +5,7 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 
 /**
  * The CampusMap class is responsible for managing data related to the campus buildings and the paths between them.
@@ -17,6 +18,8 @@ public class CampusMap {
     private ArrayList<Path> distances;
     private ArrayList<Buildings> buildings;
     private HashMap<String, Integer> buildingMap;
+    private HashMap<String, String> partitionMap;
+    private ArrayList<Path> crossPartitionPaths;
 
     /**
      * Constructor to initialize the CampusMap object.
@@ -26,27 +29,71 @@ public class CampusMap {
         distances = new ArrayList<>();
         buildings = new ArrayList<>();
         buildingMap = new HashMap<>();
+        partitionMap = new HashMap<>();
+        crossPartitionPaths = new ArrayList<>();
     }
 
     /**
      * Loads campus map data from a CSV file.
-     * The CSV file should contain rows of the form: start building, end building, distance.
+     * The CSV file should contain rows of the form: start building, end building, distance, and optionally
+     * the opening hours of the path (see {@link OpeningHours}) for paths that are not always open.
      * The method reads the file line by line, extracts building names and distances, and populates the 
      * `buildings`, `distances`, and `buildingMap`.
      * 
      * @param filePath
      */
     public void loadData(String filePath) {
+        loadData(filePath, null);
+    }
+
+    /**
+     * Loads only the part of the campus map data that belongs to one partition, so each campus or region
+     * can be hosted on its own. Paths inside the partition are loaded as usual; paths that cross into
+     * another partition are kept in `crossPartitionPaths`, starting from the building inside this partition.
+     * The partition assignment must be loaded first with {@link #loadPartitions(String)}.
+     *
+     * @param filePath The CSV file with the paths of the whole campus.
+     * @param partitionName The partition to load.
+     */
+    public void loadPartitionData(String filePath, String partitionName) {
+        loadData(filePath, partitionName);
+    }
+
+    /**
+     * Reads the paths CSV file, keeping every row when partitionName is null or only the rows touching
+     * that partition otherwise.
+     */
+    private void loadData(String filePath, String partitionName) {
         try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
             String line;
             while ((line = br.readLine()) != null) {
                 String[] parts = line.split(",");
             
-                if (parts.length == 3) {
+                if (parts.length == 3 || parts.length == 4) {
                     String startLocation = parts[0].trim();
                     String endLocation = parts[1].trim();
                     int distance = Integer.parseInt(parts[2].trim());
 
+                    if (partitionName != null) {
+                        boolean startInside = partitionName.equals(partitionMap.get(startLocation));
+                        boolean endInside = partitionName.equals(partitionMap.get(endLocation));
+                        if (startInside != endInside) {
+                            String inside = startInside ? startLocation : endLocation;
+                            String outside = startInside ? endLocation : startLocation;
+                            if (!buildingMap.containsKey(inside)) {
+                                buildings.add(new Buildings(inside));
+                                buildingMap.put(inside, buildings.size() - 1);
+                            }
+                            Path crossPath = new Path(inside, outside, distance);
+                            if (parts.length == 4) {
+                                crossPath.setOpeningHours(OpeningHours.parse(parts[3]));
+                            }
+                            crossPartitionPaths.add(crossPath);
+                        }
+                        if (!startInside || !endInside) {
+                            continue;
+                        }
+                    }
                   
                     if (!buildingMap.containsKey(startLocation)) {
                         buildings.add(new Buildings(startLocation));
@@ -56,7 +103,11 @@ public class CampusMap {
                         buildings.add(new Buildings(endLocation));
                         buildingMap.put(endLocation, buildings.size() - 1);
                     }
-                    distances.add(new Path(startLocation, endLocation, distance));
+                    Path path = new Path(startLocation, endLocation, distance);
+                    if (parts.length == 4) {
+                        path.setOpeningHours(OpeningHours.parse(parts[3]));
+                    }
+                    distances.add(path);
                 }
             }
         } catch (IOException e) {
@@ -64,9 +115,91 @@ public class CampusMap {
             e.printStackTrace();
         } catch (NumberFormatException e) {
             System.err.println("Error parsing distance value. Please check the CSV file format.");
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing opening hours: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads which partition (campus or region) each building belongs to from a CSV file.
+     * The CSV file should contain rows of the form: building, partition.
+     *
+     * @param filePath The CSV file with the partition assignment.
+     */
+    public void loadPartitions(String filePath) {
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length == 2) {
+                    partitionMap.put(parts[0].trim(), parts[1].trim());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading partitions from file: " + filePath);
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Loads the opening hours of buildings from a CSV file. Call after the paths are loaded.
+     * The CSV file should contain rows of the form: building, opening hours (see {@link OpeningHours}).
+     * Buildings that are not listed stay always open.
+     *
+     * A SearchEngine builds its time windows when it is constructed, so an engine created before this
+     * call ignores the new hours until {@link SearchEngine#refreshOpeningHours()} is called on it.
+     *
+     * @param filePath The CSV file with the opening hours.
+     */
+    public void loadOpeningHours(String filePath) {
+        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] parts = line.split(",");
+                if (parts.length == 2) {
+                    Integer index = getBuildingIndex(parts[0]);
+                    if (index != null) {
+                        buildings.get(index).setOpeningHours(OpeningHours.parse(parts[1]));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error loading opening hours from file: " + filePath);
+            e.printStackTrace();
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error parsing opening hours: " + e.getMessage());
         }
     }
 
+    /**
+     * Retrieves the partition a building belongs to.
+     *
+     * @param buildingName The name of the building to look up.
+     * @return The name of the partition, or null if the building has not been assigned one.
+     */
+    public String getPartition(String buildingName) {
+        return partitionMap.get(buildingName.trim());
+    }
+
+    /**
+     * Returns the names of all partitions in the loaded partition assignment.
+     *
+     * @return The partition names, in the order they first appear.
+     */
+    public ArrayList<String> getPartitionNames() {
+        return new ArrayList<>(new LinkedHashSet<>(partitionMap.values()));
+    }
+
+    /**
+     * Returns the paths that leave the loaded partition, each starting from the building inside it.
+     * Empty unless the map was loaded with {@link #loadPartitionData(String, String)}.
+     *
+     * @return A list of `Path` objects crossing into other partitions.
+     */
+    public ArrayList<Path> getCrossPartitionPaths() {
+        return crossPartitionPaths;
+    }
+
     /**
      * Returns the list of all buildings in the campus map.
      * 
@@ -0,0 +1,111 @@
+package campusMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import edu.princeton.cs.algs4.DijkstraSP;
+import edu.princeton.cs.algs4.DirectedEdge;
+
+/**
+ * The GraphPartition class holds one partition (campus or region) of a partitioned campus map in this JVM.
+ * It loads only its own buildings and paths, plus the paths that cross into other partitions, and
+ * precomputes the boundary-to-boundary overlay so cross-partition queries never search its interior
+ * unless they start or end in it.
+ */
+public class GraphPartition implements PartitionService {
+    private String name;
+    private CampusMap campusMap;
+    private SearchEngine searchEngine;
+    private List<String> boundaryBuildings;
+    private double[][] overlay;
+
+    /**
+     * Constructs a GraphPartition from a campus map loaded with {@link CampusMap#loadPartitionData(String, String)}.
+     *
+     * @param name The name of the partition.
+     * @param campusMap The campus map holding only this partition's data.
+     */
+    public GraphPartition(String name, CampusMap campusMap) {
+        this.name = name;
+        this.campusMap = campusMap;
+        this.searchEngine = new SearchEngine(campusMap);
+
+        LinkedHashSet<String> boundary = new LinkedHashSet<>();
+        for (Path path : campusMap.getCrossPartitionPaths()) {
+            boundary.add(path.getStartLocation());
+        }
+        this.boundaryBuildings = Collections.unmodifiableList(new ArrayList<>(boundary));
+
+        overlay = new double[boundaryBuildings.size()][];
+        for (int i = 0; i < boundaryBuildings.size(); i++) {
+            overlay[i] = distancesToBoundary(boundaryBuildings.get(i));
+        }
+    }
+
+    /**
+     * Loads one partition on its own from the shared data files.
+     *
+     * @param dataFilePath The CSV file with the paths of the whole campus.
+     * @param partitionFilePath The CSV file assigning buildings to partitions.
+     * @param name The name of the partition to load.
+     * @return The loaded partition.
+     */
+    public static GraphPartition load(String dataFilePath, String partitionFilePath, String name) {
+        CampusMap campusMap = new CampusMap();
+        campusMap.loadPartitions(partitionFilePath);
+        campusMap.loadPartitionData(dataFilePath, name);
+        return new GraphPartition(name, campusMap);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public boolean contains(String buildingName) {
+        return campusMap.getBuildingIndex(buildingName) != null;
+    }
+
+    @Override
+    public List<String> getBoundaryBuildings() {
+        return boundaryBuildings;
+    }
+
+    @Override
+    public double[][] getOverlay() {
+        return overlay;
+    }
+
+    @Override
+    public List<Path> getCrossPartitionPaths() {
+        return Collections.unmodifiableList(campusMap.getCrossPartitionPaths());
+    }
+
+    @Override
+    public double[] distancesToBoundary(String buildingName) {
+        DijkstraSP sp = new DijkstraSP(searchEngine.getGraph(), campusMap.getBuildingIndex(buildingName));
+        double[] distances = new double[boundaryBuildings.size()];
+        for (int i = 0; i < distances.length; i++) {
+            distances[i] = sp.distTo(campusMap.getBuildingIndex(boundaryBuildings.get(i)));
+        }
+        return distances;
+    }
+
+    @Override
+    public List<Path> findLocalPath(String start, String end) {
+        SearchEngine.Route route = searchEngine.search(campusMap.getBuildingIndex(start),
+                campusMap.getBuildingIndex(end), null);
+        if (route == null) {
+            return null;
+        }
+        List<Path> paths = new ArrayList<>();
+        for (DirectedEdge edge : route.getEdges()) {
+            paths.add(new Path(campusMap.getBuildings().get(edge.from()).getName(),
+                    campusMap.getBuildings().get(edge.to()).getName(), edge.weight()));
+        }
+        return paths;
+    }
+}
@@ -0,0 +1,480 @@
+package campusMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import edu.princeton.cs.algs4.DijkstraSP;
+import edu.princeton.cs.algs4.DirectedEdge;
+import edu.princeton.cs.algs4.EdgeWeightedDigraph;
+
+/**
+ * The LandmarkIndex class stores the preprocessing for ALT search (A*, landmarks, triangle inequality).
+ * A few buildings are chosen as landmarks and the shortest distances from and to every landmark are stored.
+ * By the triangle inequality these give a lower bound on the distance between any two buildings, which
+ * guides the search toward the destination without needing coordinates.
+ *
+ * Distances are kept in float arrays laid out building by building, so the bounds for one building are
+ * next to each other. Whole-meter distances stay exact in a float up to 16,777 km.
+ */
+public class LandmarkIndex {
+    private static final int FILE_MAGIC = 0x414C5432; // "ALT2"
+
+    private int[] landmarks;
+    private int vertexCount;
+    private int edgeCount;
+    private long graphFingerprint;
+    private int landmarkCount;
+    private Selection selection;
+    private float[] fromLandmark;
+    private float[] toLandmark;
+
+    /**
+     * The ways landmarks can be chosen.
+     */
+    public enum Selection {
+        /** Each new landmark is the building farthest from the landmarks chosen so far. */
+        FARTHEST,
+        /** Each new landmark covers the part of a shortest path tree where the current bounds are weakest. */
+        AVOID
+    }
+
+    private LandmarkIndex(int[] landmarks, int vertexCount, int edgeCount, long graphFingerprint, int landmarkCount,
+            Selection selection, float[] fromLandmark, float[] toLandmark) {
+        this.landmarks = landmarks;
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.graphFingerprint = graphFingerprint;
+        this.landmarkCount = landmarkCount;
+        this.selection = selection;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Selects landmarks on the graph and computes their distance tables.
+     * Selection is sequential because each choice depends on the previous ones, and it keeps the distance
+     * tables it computes along the way. Only the searches selection did not need are run afterward, in
+     * parallel, and the tables are then packed into the float layout in parallel too.
+     *
+     * @param graph The campus graph.
+     * @param landmarkCount The number of landmarks to select.
+     * @param selection The landmark selection strategy.
+     * @return The landmark index.
+     * @throws IllegalArgumentException if landmarkCount is negative
+     */
+    public static LandmarkIndex build(EdgeWeightedDigraph graph, int landmarkCount, Selection selection) {
+        if (landmarkCount < 0) {
+            throw new IllegalArgumentException("Landmark count must not be negative: " + landmarkCount);
+        }
+        int count = Math.min(landmarkCount, graph.V());
+        int vertexCount = graph.V();
+        if (count == 0) {
+            return new LandmarkIndex(new int[0], vertexCount, graph.E(), fingerprint(graph), landmarkCount,
+                    selection, new float[0], new float[0]);
+        }
+
+        EdgeWeightedDigraph reverse = reverse(graph);
+        double[][] fromTables = new double[count][];
+        double[][] toTables = new double[count][];
+        int[] landmarks = selection == Selection.FARTHEST
+                ? selectFarthest(graph, reverse, count, fromTables, toTables)
+                : selectAvoid(graph, reverse, count, fromTables, toTables);
+
+        int k = landmarks.length;
+        IntStream.range(0, 2 * k).parallel().forEach(task -> {
+            int i = task % k;
+            boolean forward = task < k;
+            double[][] tables = forward ? fromTables : toTables;
+            if (tables[i] == null) {
+                tables[i] = distances(new DijkstraSP(forward ? graph : reverse, landmarks[i]), vertexCount);
+            }
+        });
+
+        float[] fromLandmark = new float[vertexCount * k];
+        float[] toLandmark = new float[vertexCount * k];
+        IntStream.range(0, k).parallel().forEach(i -> {
+            for (int v = 0; v < vertexCount; v++) {
+                fromLandmark[v * k + i] = (float) fromTables[i][v];
+                toLandmark[v * k + i] = (float) toTables[i][v];
+            }
+        });
+        return new LandmarkIndex(landmarks, vertexCount, graph.E(), fingerprint(graph), landmarkCount, selection,
+                fromLandmark, toLandmark);
+    }
+
+    /**
+     * Loads the landmark index from the given file if it was built for this graph with the same landmark
+     * count and selection; otherwise builds it and saves it to the file for next time. The graph is compared
+     * by a fingerprint of every edge and weight, since bounds from a graph with different weights can
+     * overestimate and make ALT return wrong routes.
+     *
+     * @param filePath The file the distance tables are persisted in.
+     * @param graph The campus graph.
+     * @param landmarkCount The number of landmarks to select when building.
+     * @param selection The landmark selection strategy used when building.
+     * @return The landmark index.
+     */
+    public static LandmarkIndex loadOrBuild(String filePath, EdgeWeightedDigraph graph, int landmarkCount,
+            Selection selection) {
+        if (new File(filePath).exists()) {
+            try {
+                LandmarkIndex index = load(filePath);
+                if (index.vertexCount == graph.V() && index.edgeCount == graph.E()
+                        && index.graphFingerprint == fingerprint(graph)
+                        && index.landmarkCount == landmarkCount && index.selection == selection) {
+                    return index;
+                }
+            } catch (IOException e) {
+                System.err.println("Error loading landmarks from file: " + filePath + ". Rebuilding.");
+            }
+        }
+
+        LandmarkIndex index = build(graph, landmarkCount, selection);
+        try {
+            index.save(filePath);
+        } catch (IOException e) {
+            System.err.println("Error saving landmarks to file: " + filePath);
+            e.printStackTrace();
+        }
+        return index;
+    }
+
+    /**
+     * Saves the landmark index in a compact binary format.
+     *
+     * @param filePath The file to write.
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String filePath) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(vertexCount);
+            out.writeInt(edgeCount);
+            out.writeLong(graphFingerprint);
+            out.writeInt(landmarkCount);
+            out.writeByte(selection.ordinal());
+            out.writeInt(landmarks.length);
+            for (int landmark : landmarks) {
+                out.writeInt(landmark);
+            }
+            for (float d : fromLandmark) {
+                out.writeFloat(d);
+            }
+            for (float d : toLandmark) {
+                out.writeFloat(d);
+            }
+        }
+    }
+
+    /**
+     * Loads a landmark index saved by {@link #save(String)}.
+     *
+     * @param filePath The file to read.
+     * @return The landmark index.
+     * @throws IOException if the file cannot be read or is not a landmark file
+     */
+    public static LandmarkIndex load(String filePath) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                throw new IOException("Not a landmark file: " + filePath);
+            }
+            int vertexCount = in.readInt();
+            int edgeCount = in.readInt();
+            long graphFingerprint = in.readLong();
+            int landmarkCount = in.readInt();
+            int selectionOrdinal = in.readByte();
+            if (selectionOrdinal < 0 || selectionOrdinal >= Selection.values().length) {
+                throw new IOException("Invalid landmark selection in file: " + filePath);
+            }
+            int[] landmarks = new int[in.readInt()];
+            for (int i = 0; i < landmarks.length; i++) {
+                landmarks[i] = in.readInt();
+            }
+            float[] fromLandmark = new float[vertexCount * landmarks.length];
+            float[] toLandmark = new float[vertexCount * landmarks.length];
+            for (int i = 0; i < fromLandmark.length; i++) {
+                fromLandmark[i] = in.readFloat();
+            }
+            for (int i = 0; i < toLandmark.length; i++) {
+                toLandmark[i] = in.readFloat();
+            }
+            return new LandmarkIndex(landmarks, vertexCount, edgeCount, graphFingerprint, landmarkCount,
+                    Selection.values()[selectionOrdinal], fromLandmark, toLandmark);
+        }
+    }
+
+    /**
+     * Returns the landmarks chosen.
+     *
+     * @return The building indices of the landmarks.
+     */
+    public int[] getLandmarks() {
+        return landmarks.clone();
+    }
+
+    /**
+     * Gathers the distances between the destination and every landmark, so they are read once per query.
+     * The first half holds d(L, t) and the second half d(t, L).
+     *
+     * @param target The index of the destination building.
+     * @return The destination's landmark distances.
+     */
+    double[] targetBounds(int target) {
+        int k = landmarks.length;
+        double[] bounds = new double[2 * k];
+        for (int i = 0; i < k; i++) {
+            bounds[i] = fromLandmark[target * k + i];
+            bounds[k + i] = toLandmark[target * k + i];
+        }
+        return bounds;
+    }
+
+    /**
+     * Computes a lower bound on the distance from v to the destination, using
+     * d(v, t) >= d(L, t) - d(L, v) and d(v, t) >= d(v, L) - d(t, L) for every landmark L.
+     *
+     * @param v The index of the building.
+     * @param targetBounds The destination's distances from {@link #targetBounds(int)}.
+     * @return The lower bound, never negative.
+     */
+    double lowerBound(int v, double[] targetBounds) {
+        int k = landmarks.length;
+        double best = 0;
+        for (int i = 0; i < k; i++) {
+            double viaFrom = targetBounds[i] - fromLandmark[v * k + i];
+            double viaTo = toLandmark[v * k + i] - targetBounds[k + i];
+            // Unreachable landmarks give infinity minus infinity, which never compares greater
+            if (viaFrom > best) {
+                best = viaFrom;
+            }
+            if (viaTo > best) {
+                best = viaTo;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Picks each landmark as the building farthest (in round-trip distance) from the landmarks so far,
+     * starting from the building farthest from building 0. Buildings unreachable from every landmark
+     * count as farthest, so disconnected parts of the campus get a landmark too. The distance tables of
+     * every landmark but the last are stored in fromTables and toTables; the last one needs no search
+     * to be chosen.
+     */
+    private static int[] selectFarthest(EdgeWeightedDigraph graph, EdgeWeightedDigraph reverse, int count,
+            double[][] fromTables, double[][] toTables) {
+        int vertexCount = graph.V();
+        int[] landmarks = new int[count];
+        boolean[] chosen = new boolean[vertexCount];
+        double[] nearest = new double[vertexCount];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+
+        DijkstraSP first = new DijkstraSP(graph, 0);
+        int next = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            if (first.hasPathTo(v) && first.distTo(v) > first.distTo(next)) {
+                next = v;
+            }
+        }
+
+        for (int i = 0; i < count; i++) {
+            landmarks[i] = next;
+            chosen[next] = true;
+            if (i == count - 1) {
+                break;
+            }
+            fromTables[i] = distances(new DijkstraSP(graph, next), vertexCount);
+            toTables[i] = distances(new DijkstraSP(reverse, next), vertexCount);
+            for (int v = 0; v < vertexCount; v++) {
+                nearest[v] = Math.min(nearest[v], fromTables[i][v] + toTables[i][v]);
+            }
+            next = -1;
+            for (int v = 0; v < vertexCount; v++) {
+                if (!chosen[v] && (next == -1 || nearest[v] > nearest[next])) {
+                    next = v;
+                }
+            }
+        }
+        return landmarks;
+    }
+
+    /**
+     * Picks landmarks with the avoid heuristic of Goldberg and Werneck. For a random root, each building in
+     * the shortest path tree is weighted by how much the current landmarks underestimate its distance from
+     * the root. The tree is then walked from the root toward the heaviest subtree without a landmark, and
+     * the leaf reached becomes the next landmark. The distance tables of every landmark are stored in
+     * fromTables and toTables, since the next choice needs them anyway.
+     */
+    private static int[] selectAvoid(EdgeWeightedDigraph graph, EdgeWeightedDigraph reverse, int count,
+            double[][] fromTables, double[][] toTables) {
+        int vertexCount = graph.V();
+        Random random = new Random(vertexCount);
+        int[] landmarks = new int[count];
+        boolean[] chosen = new boolean[vertexCount];
+
+        for (int i = 0; i < count; i++) {
+            int root = random.nextInt(vertexCount);
+            DijkstraSP sp = new DijkstraSP(graph, root);
+            double[] dist = distances(sp, vertexCount);
+
+            // Rebuild the shortest path tree from the distances; any tight edge is a valid parent
+            int[] parent = new int[vertexCount];
+            Arrays.fill(parent, -1);
+            for (DirectedEdge edge : graph.edges()) {
+                int w = edge.to();
+                if (w != root && parent[w] == -1 && dist[edge.from()] + edge.weight() == dist[w]) {
+                    parent[w] = edge.from();
+                }
+            }
+
+            double[] size = new double[vertexCount];
+            boolean[] hasLandmark = new boolean[vertexCount];
+            for (int v = 0; v < vertexCount; v++) {
+                if (sp.hasPathTo(v)) {
+                    double bound = 0;
+                    for (int j = 0; j < i; j++) {
+                        bound = Math.max(bound, fromTables[j][v] - fromTables[j][root]);
+                        bound = Math.max(bound, toTables[j][root] - toTables[j][v]);
+                    }
+                    size[v] = dist[v] - bound;
+                }
+                hasLandmark[v] = chosen[v];
+            }
+
+            // Accumulate subtree sizes from the deepest buildings up; subtrees with a landmark count as zero
+            Integer[] byDepth = new Integer[vertexCount];
+            for (int v = 0; v < vertexCount; v++) {
+                byDepth[v] = v;
+            }
+            Arrays.sort(byDepth, Comparator.comparingDouble((Integer v) -> dist[v]).reversed());
+            for (int v : byDepth) {
+                if (hasLandmark[v]) {
+                    size[v] = 0;
+                }
+                if (parent[v] != -1) {
+                    size[parent[v]] += size[v];
+                    hasLandmark[parent[v]] |= hasLandmark[v];
+                }
+            }
+
+            int leaf = root;
+            while (true) {
+                int heaviest = -1;
+                for (DirectedEdge edge : graph.adj(leaf)) {
+                    int child = edge.to();
+                    if (parent[child] == leaf && size[child] > 0 && (heaviest == -1 || size[child] > size[heaviest])) {
+                        heaviest = child;
+                    }
+                }
+                if (heaviest == -1) {
+                    break;
+                }
+                leaf = heaviest;
+            }
+            // The root may already be a landmark when every subtree is covered; fall back to any other building
+            while (chosen[leaf]) {
+                leaf = random.nextInt(vertexCount);
+            }
+
+            landmarks[i] = leaf;
+            chosen[leaf] = true;
+            fromTables[i] = distances(new DijkstraSP(graph, leaf), vertexCount);
+            toTables[i] = distances(new DijkstraSP(reverse, leaf), vertexCount);
+        }
+        return landmarks;
+    }
+
+    /**
+     * Copies the distances of a finished search into an array indexed by building.
+     */
+    private static double[] distances(DijkstraSP sp, int vertexCount) {
+        double[] dist = new double[vertexCount];
+        for (int v = 0; v < vertexCount; v++) {
+            dist[v] = sp.distTo(v);
+        }
+        return dist;
+    }
+
+    /**
+     * Computes a fingerprint of the graph's edges (from, to, weight). Each edge is hashed on its own and
+     * the hashes are summed, so the result does not depend on the order edges were added in.
+     */
+    static long fingerprint(EdgeWeightedDigraph graph) {
+        long fingerprint = graph.V();
+        for (DirectedEdge edge : graph.edges()) {
+            long h = edge.from() * 0x9E3779B97F4A7C15L;
+            h = (h ^ (h >>> 29) ^ edge.to()) * 0xBF58476D1CE4E5B9L;
+            h = (h ^ (h >>> 32) ^ Double.doubleToLongBits(edge.weight())) * 0x94D049BB133111EBL;
+            fingerprint += h ^ (h >>> 31);
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns a copy of the graph with every edge reversed, for searches toward a landmark.
+     */
+    private static EdgeWeightedDigraph reverse(EdgeWeightedDigraph graph) {
+        EdgeWeightedDigraph reverse = new EdgeWeightedDigraph(graph.V());
+        for (DirectedEdge edge : graph.edges()) {
+            reverse.addEdge(new DirectedEdge(edge.to(), edge.from(), edge.weight()));
+        }
+        return reverse;
+    }
+
+    /**
+     * Main method for testing the functionality of the LandmarkIndex.
+     * It builds the index with both selection strategies and reports how many fewer buildings
+     * ALT settles than plain Dijkstra over every pair of buildings.
+     */
+    public static void main(String[] args) {
+        CampusMap campusMap = new CampusMap();
+        campusMap.loadData("src/campusMap/Resources/building_connections.csv");
+        SearchEngine searchEngine = new SearchEngine(campusMap);
+        EdgeWeightedDigraph graph = searchEngine.getGraph();
+
+        for (Selection selection : Selection.values()) {
+            long startTime = System.nanoTime();
+            LandmarkIndex index = build(graph, 4, selection);
+            double buildMillis = (System.nanoTime() - startTime) / 1e6;
+
+            long dijkstraSettled = 0;
+            long altSettled = 0;
+            for (int s = 0; s < graph.V(); s++) {
+                for (int t = 0; t < graph.V(); t++) {
+                    SearchEngine.Route plain = searchEngine.search(s, t, null);
+                    SearchEngine.Route alt = searchEngine.search(s, t, index);
+                    if (plain == null || alt == null) {
+                        continue;
+                    }
+                    if (plain.getDistance() != alt.getDistance()) {
+                        System.err.println("Distance mismatch between " + s + " and " + t);
+                    }
+                    dijkstraSettled += plain.getSettled();
+                    altSettled += alt.getSettled();
+                }
+            }
+
+            List<String> names = new ArrayList<>();
+            for (int landmark : index.getLandmarks()) {
+                names.add(campusMap.getBuildings().get(landmark).getName());
+            }
+            System.out.println(selection + " landmarks: " + names);
+            System.out.println("Preprocessing: " + String.format("%.2f ms", buildMillis));
+            System.out.println("Settled buildings: Dijkstra " + dijkstraSettled + ", ALT " + altSettled
+                    + String.format(" (%.2fx fewer)", (double) dijkstraSettled / altSettled));
+            System.out.println();
+        }
+    }
+}
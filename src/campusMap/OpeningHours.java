@@ -0,0 +1,172 @@
+package campusMap;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * The OpeningHours class represents a weekly schedule of when a building or path can be walked through.
+ * The week is divided into 15-minute slots and the schedule is stored as one bit per slot, so a whole
+ * week fits in eleven longs and checking a time is a single bit test.
+ *
+ * Schedules are written as segments separated by semicolons, each a day or day range followed by a time range,
+ * for example {@code "Mon-Fri 07:00-22:00; Sat 08:00-17:00"}. {@code "24/7"} is always open and
+ * {@code "closed"} is never open. A time range ending before it starts runs past midnight.
+ */
+public class OpeningHours {
+    static final int MINUTES_PER_SLOT = 15;
+    static final int SLOTS_PER_DAY = 24 * 60 / MINUTES_PER_SLOT;
+    static final int SLOTS_PER_WEEK = 7 * SLOTS_PER_DAY;
+
+    /** The schedule of paths and buildings that never close. */
+    public static final OpeningHours ALWAYS_OPEN = parse("24/7");
+
+    private long[] slots;
+    private String description;
+
+    private OpeningHours(long[] slots, String description) {
+        this.slots = slots;
+        this.description = description;
+    }
+
+    /**
+     * Parses a schedule such as {@code "Mon-Fri 07:00-22:00; Sat 08:00-17:00"}.
+     * Times that are not on a 15-minute boundary are rounded inward, so a slot only counts as open
+     * if it is open for the whole 15 minutes; a range shorter than one whole slot stays closed.
+     *
+     * @param schedule the schedule text
+     * @return the opening hours
+     * @throws IllegalArgumentException if the schedule cannot be parsed
+     */
+    public static OpeningHours parse(String schedule) {
+        long[] slots = new long[(SLOTS_PER_WEEK + 63) / 64];
+        String text = schedule.trim();
+        if (text.equalsIgnoreCase("24/7")) {
+            for (int slot = 0; slot < SLOTS_PER_WEEK; slot++) {
+                slots[slot >>> 6] |= 1L << slot;
+            }
+            return new OpeningHours(slots, text);
+        }
+        if (text.equalsIgnoreCase("closed")) {
+            return new OpeningHours(slots, text);
+        }
+
+        for (String segment : text.split(";")) {
+            String[] parts = segment.trim().split("\\s+");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid opening hours: " + segment.trim());
+            }
+            String[] days = parts[0].split("-");
+            int firstDay = parseDay(days[0]);
+            int lastDay = days.length > 1 ? parseDay(days[1]) : firstDay;
+            String[] times = parts[1].split("-");
+            if (days.length > 2 || times.length != 2) {
+                throw new IllegalArgumentException("Invalid opening hours: " + segment.trim());
+            }
+            int openMinutes = parseMinutes(times[0]);
+            int closeMinutes = parseMinutes(times[1]);
+            // Decide whether the range runs past midnight before rounding, which can only shrink it
+            if (closeMinutes <= openMinutes) {
+                closeMinutes += 24 * 60;
+            }
+            int open = (openMinutes + MINUTES_PER_SLOT - 1) / MINUTES_PER_SLOT;
+            int close = closeMinutes / MINUTES_PER_SLOT;
+
+            for (int day = firstDay; ; day = (day + 1) % 7) {
+                for (int slot = open; slot < close; slot++) {
+                    int weekSlot = (day * SLOTS_PER_DAY + slot) % SLOTS_PER_WEEK;
+                    slots[weekSlot >>> 6] |= 1L << weekSlot;
+                }
+                if (day == lastDay) {
+                    break;
+                }
+            }
+        }
+        return new OpeningHours(slots, text);
+    }
+
+    /**
+     * Tells whether the schedule is open at the given time.
+     *
+     * @param time the date and time to check
+     * @return true if open
+     */
+    public boolean isOpenAt(LocalDateTime time) {
+        return isOpenInSlot(slotOf(time));
+    }
+
+    /**
+     * Tells whether the schedule is open for the given 15-minute slot of the week.
+     *
+     * @param slot the slot, counted from Monday midnight
+     * @return true if open
+     */
+    boolean isOpenInSlot(int slot) {
+        return (slots[slot >>> 6] & (1L << slot)) != 0;
+    }
+
+    /**
+     * Returns the 15-minute slot of the week a time falls in, counted from Monday midnight.
+     *
+     * @param time the date and time
+     * @return the slot
+     */
+    static int slotOf(LocalDateTime time) {
+        return (time.getDayOfWeek().getValue() - 1) * SLOTS_PER_DAY
+                + (time.getHour() * 60 + time.getMinute()) / MINUTES_PER_SLOT;
+    }
+
+    /**
+     * Returns a time falling in the given slot, in a fixed reference week, for replaying recorded queries.
+     *
+     * @param slot the slot, counted from Monday midnight
+     * @return the start of the slot in the week of Monday 1 January 2024
+     */
+    static LocalDateTime timeOfSlot(int slot) {
+        return LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes((long) slot * MINUTES_PER_SLOT);
+    }
+
+    private static int parseDay(String day) {
+        for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+            if (dayOfWeek.name().substring(0, 3).equalsIgnoreCase(day.trim())) {
+                return dayOfWeek.getValue() - 1;
+            }
+        }
+        throw new IllegalArgumentException("Invalid day: " + day);
+    }
+
+    private static int parseMinutes(String time) {
+        String[] parts = time.trim().split(":");
+        try {
+            int hours = Integer.parseInt(parts[0]);
+            int minutes = parts.length > 1 ? Integer.parseInt(parts[1]) : 0;
+            if (parts.length > 2 || hours < 0 || hours > 24 || minutes < 0 || minutes > 59
+                    || (hours == 24 && minutes > 0)) {
+                throw new IllegalArgumentException("Invalid time: " + time);
+            }
+            return hours * 60 + minutes;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid time: " + time);
+        }
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof OpeningHours && Arrays.equals(slots, ((OpeningHours) other).slots);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(slots);
+    }
+
+    /**
+     * Returns the schedule as it was written.
+     *
+     * @return the schedule text
+     */
+    @Override
+    public String toString() {
+        return description;
+    }
+}
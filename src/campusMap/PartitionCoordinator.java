@@ -0,0 +1,231 @@
+package campusMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import edu.princeton.cs.algs4.DijkstraSP;
+import edu.princeton.cs.algs4.DirectedEdge;
+import edu.princeton.cs.algs4.EdgeWeightedDigraph;
+
+/**
+ * The PartitionCoordinator class answers shortest path queries over a campus split into partitions,
+ * combining the answers of the {@link PartitionService}s that host them.
+ *
+ * It keeps only a small overlay graph: the boundary buildings of every partition, joined by each
+ * partition's precomputed boundary-to-boundary distances and by the paths crossing between partitions.
+ * A query asks the source and target partitions for the distances from its endpoints to their boundaries,
+ * searches the overlay, and then asks the partitions along the way to expand each overlay step into the
+ * buildings actually walked past.
+ */
+public class PartitionCoordinator {
+    private List<PartitionService> partitions;
+    private List<String> overlayBuildings;
+    private HashMap<String, Integer> overlayIndex;
+    private int[] overlayOwner;
+    private EdgeWeightedDigraph overlayGraph;
+
+    /**
+     * Constructs a PartitionCoordinator over the given partitions and builds the overlay graph.
+     *
+     * @param partitions The partitions making up the campus, local or remote.
+     */
+    public PartitionCoordinator(List<PartitionService> partitions) {
+        this.partitions = new ArrayList<>(partitions);
+        this.overlayBuildings = new ArrayList<>();
+        this.overlayIndex = new HashMap<>();
+        List<Integer> owners = new ArrayList<>();
+        for (int p = 0; p < this.partitions.size(); p++) {
+            for (String building : this.partitions.get(p).getBoundaryBuildings()) {
+                overlayIndex.put(building, overlayBuildings.size());
+                overlayBuildings.add(building);
+                owners.add(p);
+            }
+        }
+        overlayOwner = owners.stream().mapToInt(Integer::intValue).toArray();
+
+        overlayGraph = new EdgeWeightedDigraph(overlayBuildings.size());
+        for (PartitionService partition : this.partitions) {
+            List<String> boundary = partition.getBoundaryBuildings();
+            double[][] overlay = partition.getOverlay();
+            for (int i = 0; i < boundary.size(); i++) {
+                for (int j = 0; j < boundary.size(); j++) {
+                    if (i != j && overlay[i][j] != Double.POSITIVE_INFINITY) {
+                        overlayGraph.addEdge(new DirectedEdge(overlayIndex.get(boundary.get(i)),
+                                overlayIndex.get(boundary.get(j)), overlay[i][j]));
+                    }
+                }
+            }
+            for (Path path : partition.getCrossPartitionPaths()) {
+                Integer to = overlayIndex.get(path.getEndLocation());
+                // Paths into a partition this coordinator does not know about cannot be used
+                if (to != null) {
+                    overlayGraph.addEdge(new DirectedEdge(overlayIndex.get(path.getStartLocation()), to,
+                            path.getDistance()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the shortest path between two buildings in any partitions.
+     *
+     * @param start The full name of the starting building.
+     * @param end The full name of the destination building.
+     * @return The paths walked in order (empty if start equals end), or null if there is no path.
+     * @throws IllegalArgumentException if a building is not in any partition
+     */
+    public List<Path> findRoute(String start, String end) {
+        PartitionService source = partitionOf(start);
+        PartitionService target = partitionOf(end);
+        if (source == null || target == null) {
+            throw new IllegalArgumentException("Invalid building name(s): " + start + ", " + end);
+        }
+
+        // The two endpoint partitions may be remote, so ask them at the same time
+        CompletableFuture<double[]> fromStart = CompletableFuture.supplyAsync(() -> source.distancesToBoundary(start));
+        CompletableFuture<double[]> toEnd = CompletableFuture.supplyAsync(() -> target.distancesToBoundary(end));
+        CompletableFuture<List<Path>> local = source == target
+                ? CompletableFuture.supplyAsync(() -> source.findLocalPath(start, end))
+                : CompletableFuture.completedFuture(null);
+
+        // Query graph: the overlay plus a source vertex and a target vertex
+        int sourceVertex = overlayBuildings.size();
+        int targetVertex = sourceVertex + 1;
+        EdgeWeightedDigraph queryGraph = new EdgeWeightedDigraph(overlayBuildings.size() + 2);
+        for (DirectedEdge edge : overlayGraph.edges()) {
+            queryGraph.addEdge(edge);
+        }
+        addBoundaryEdges(queryGraph, source.getBoundaryBuildings(), fromStart.join(), sourceVertex, true);
+        addBoundaryEdges(queryGraph, target.getBoundaryBuildings(), toEnd.join(), targetVertex, false);
+        List<Path> localPath = local.join();
+        if (localPath != null) {
+            queryGraph.addEdge(new DirectedEdge(sourceVertex, targetVertex, totalDistance(localPath)));
+        }
+
+        DijkstraSP sp = new DijkstraSP(queryGraph, sourceVertex);
+        if (!sp.hasPathTo(targetVertex)) {
+            return null;
+        }
+
+        // Expand each overlay step into the buildings walked past
+        List<Path> route = new ArrayList<>();
+        for (DirectedEdge edge : sp.pathTo(targetVertex)) {
+            int u = edge.from();
+            int w = edge.to();
+            if (u == sourceVertex && w == targetVertex) {
+                route.addAll(localPath);
+            } else if (u == sourceVertex) {
+                route.addAll(source.findLocalPath(start, overlayBuildings.get(w)));
+            } else if (w == targetVertex) {
+                route.addAll(target.findLocalPath(overlayBuildings.get(u), end));
+            } else if (overlayOwner[u] == overlayOwner[w]) {
+                route.addAll(partitions.get(overlayOwner[u]).findLocalPath(overlayBuildings.get(u), overlayBuildings.get(w)));
+            } else {
+                route.add(new Path(overlayBuildings.get(u), overlayBuildings.get(w), edge.weight()));
+            }
+        }
+        return route;
+    }
+
+    /**
+     * Finds the shortest path between two buildings in any partitions, in the same format as
+     * {@link SearchEngine#findShortestPath(String, String)}.
+     *
+     * @param start The full name of the starting building.
+     * @param end The full name of the destination building.
+     * @return A String of building names representing the shortest path, or an error message.
+     */
+    public String findShortestPath(String start, String end) {
+        if (partitionOf(start) == null || partitionOf(end) == null) {
+            return "Error: Invalid building name(s). Please check the input.";
+        }
+        List<Path> route = findRoute(start, end);
+        if (route == null) {
+            return "No path found between " + start + " and " + end + ".";
+        }
+
+        StringBuilder result = new StringBuilder();
+        for (Path path : route) {
+            result.append(path.getStartLocation()).append(" → ");
+        }
+        result.append(end);
+
+        double totalDistance = totalDistance(route);
+        double approximateTimeMinutes = (totalDistance / SearchEngine.WALKING_SPEED_METERS_PER_SEC) / 60;
+        return result.toString() +
+                "\n● Distance: " + String.format("%.2f meters", totalDistance) +
+                "\n● Approximate time: " + String.format("%.2f mins", approximateTimeMinutes);
+    }
+
+    /**
+     * Connects the source or target vertex of the query graph to the boundary buildings of its partition.
+     */
+    private void addBoundaryEdges(EdgeWeightedDigraph queryGraph, List<String> boundary, double[] distances,
+            int vertex, boolean outgoing) {
+        for (int i = 0; i < boundary.size(); i++) {
+            if (distances[i] != Double.POSITIVE_INFINITY) {
+                int overlayVertex = overlayIndex.get(boundary.get(i));
+                queryGraph.addEdge(outgoing
+                        ? new DirectedEdge(vertex, overlayVertex, distances[i])
+                        : new DirectedEdge(overlayVertex, vertex, distances[i]));
+            }
+        }
+    }
+
+    private PartitionService partitionOf(String buildingName) {
+        for (PartitionService partition : partitions) {
+            if (partition.contains(buildingName)) {
+                return partition;
+            }
+        }
+        return null;
+    }
+
+    private static double totalDistance(List<Path> route) {
+        double total = 0;
+        for (Path path : route) {
+            total += path.getDistance();
+        }
+        return total;
+    }
+
+    /**
+     * Main method for testing the functionality of the PartitionCoordinator.
+     * Each partition is loaded on its own, as a separate JVM would, and every answer is checked
+     * against a SearchEngine over the whole campus.
+     */
+    public static void main(String[] args) {
+        String dataFile = "src/campusMap/Resources/building_connections.csv";
+        String partitionFile = "src/campusMap/Resources/building_partitions.csv";
+
+        CampusMap fullMap = new CampusMap();
+        fullMap.loadData(dataFile);
+        fullMap.loadPartitions(partitionFile);
+        SearchEngine searchEngine = new SearchEngine(fullMap);
+
+        List<PartitionService> partitions = new ArrayList<>();
+        for (String name : fullMap.getPartitionNames()) {
+            GraphPartition partition = GraphPartition.load(dataFile, partitionFile, name);
+            partitions.add(partition);
+            System.out.println(name + " boundary: " + partition.getBoundaryBuildings());
+        }
+        PartitionCoordinator coordinator = new PartitionCoordinator(partitions);
+
+        int mismatches = 0;
+        for (Buildings start : fullMap.getBuildings()) {
+            for (Buildings end : fullMap.getBuildings()) {
+                String expected = searchEngine.findShortestPath(start.getName(), end.getName());
+                String actual = coordinator.findShortestPath(start.getName(), end.getName());
+                if (!expected.substring(expected.indexOf('\n')).equals(actual.substring(actual.indexOf('\n')))) {
+                    mismatches++;
+                    System.err.println("Mismatch:\n" + expected + "\n" + actual);
+                }
+            }
+        }
+        System.out.println("Distance mismatches against the full graph: " + mismatches);
+        System.out.println();
+        System.out.println(coordinator.findShortestPath("GFSB - Gundersen Facilities Services Building", "TB - Technology Building"));
+    }
+}
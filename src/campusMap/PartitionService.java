@@ -0,0 +1,67 @@
+package campusMap;
+
+import java.util.List;
+
+/**
+ * The PartitionService interface is what a {@link PartitionCoordinator} needs from one partition
+ * (campus or region) of a partitioned campus map. A partition may live in this JVM, as a
+ * {@link GraphPartition}, or in another JVM behind a remote implementation of this interface.
+ *
+ * Paths are walkable in both directions, so distances from a building to the boundary are also
+ * the distances from the boundary back to it.
+ */
+public interface PartitionService {
+
+    /**
+     * Gets the name of the partition.
+     *
+     * @return the partition name
+     */
+    String getName();
+
+    /**
+     * Tells whether a building belongs to this partition.
+     *
+     * @param buildingName the full name of the building
+     * @return true if the building is in this partition
+     */
+    boolean contains(String buildingName);
+
+    /**
+     * Gets the boundary buildings: the buildings in this partition with a path to another partition.
+     *
+     * @return the boundary building names; indices match {@link #getOverlay()}
+     */
+    List<String> getBoundaryBuildings();
+
+    /**
+     * Gets the precomputed shortest distances between boundary buildings, walking inside this partition only.
+     *
+     * @return the boundary-to-boundary distance matrix; infinity where there is no path
+     */
+    double[][] getOverlay();
+
+    /**
+     * Gets the paths leaving this partition, each starting from a boundary building.
+     *
+     * @return the cross-partition paths
+     */
+    List<Path> getCrossPartitionPaths();
+
+    /**
+     * Computes the shortest distances from a building to every boundary building, walking inside this partition only.
+     *
+     * @param buildingName the full name of a building in this partition
+     * @return the distance to each boundary building, in {@link #getBoundaryBuildings()} order
+     */
+    double[] distancesToBoundary(String buildingName);
+
+    /**
+     * Finds the shortest path between two buildings, walking inside this partition only.
+     *
+     * @param start the full name of the starting building
+     * @param end the full name of the destination building
+     * @return the paths walked in order (empty if start equals end), or null if there is no path
+     */
+    List<Path> findLocalPath(String start, String end);
+}
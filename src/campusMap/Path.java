@@ -9,6 +9,7 @@ public class Path {
     private String startLocation;
     private String endLocation;
     private double distance;
+    private OpeningHours openingHours = OpeningHours.ALWAYS_OPEN;
 
     /**
      * Constructs a Path object with the given start location, end location, and distance.
@@ -54,6 +55,24 @@ public class Path {
         return distance;
     }
 
+    /**
+     * Gets the opening hours of the path, for indoor corridors and skybridges that are locked at times.
+     * 
+     * @return the opening hours; always open unless set
+     */
+    public OpeningHours getOpeningHours() {
+        return openingHours;
+    }
+
+    /**
+     * Sets the opening hours of the path.
+     * 
+     * @param openingHours the opening hours
+     */
+    public void setOpeningHours(OpeningHours openingHours) {
+        this.openingHours = openingHours;
+    }
+
     /**
      * Returns a string representation of the Path object.
      * 
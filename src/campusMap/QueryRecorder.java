@@ -0,0 +1,229 @@
+package campusMap;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The QueryRecorder class captures the shortest path queries a SearchEngine answers, so production
+ * traffic can be replayed later with {@link QueryReplay}.
+ *
+ * Callers only claim a slot in a fixed-size ring buffer and copy four primitive fields into it; a
+ * background thread drains the buffer into a binary log. Callers never block and never allocate: when
+ * the buffer is full the query is dropped and counted instead.
+ *
+ * Log format: each recording session appends a header of magic number, version, and the recording start
+ * time (epoch millis), followed by records of (nanoseconds since start: long, start index: int,
+ * end index: int, mode: byte, departure slot: short). The departure slot is the 15-minute slot of the week
+ * a time-aware query departed in (see {@link OpeningHours}), or -1 for queries without a departure time.
+ * Version 1 sessions have no departure slot and are still readable. Restarting with the same file adds a
+ * new session instead of overwriting.
+ */
+public class QueryRecorder implements AutoCloseable {
+    static final int FILE_MAGIC = 0x514C4F47; // "QLOG"
+    static final int FILE_VERSION = 2;
+    static final int HEADER_BYTES = 4 + 4 + 8;
+    static final int RECORD_BYTES = 8 + 4 + 4 + 1 + 2;
+    static final int VERSION_1_RECORD_BYTES = 8 + 4 + 4 + 1;
+    /** The departure slot recorded for queries without a departure time. */
+    public static final int NO_DEPARTURE = -1;
+    private static final int DEFAULT_CAPACITY = 1 << 14;
+    private static final long IDLE_PARK_NANOS = 1_000_000L;
+
+    private final int mask;
+    private final long[] timestamps;
+    private final int[] starts;
+    private final int[] ends;
+    private final byte[] modes;
+    private final short[] departures;
+    /** For each slot, the sequence number of the record in it plus one, once it is fully written. */
+    private final AtomicLongArray published;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    /** The number of callers inside {@link #record}, so close can wait for them to publish. */
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final long startNanos;
+    private final DataOutputStream out;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean stopping;
+
+    /**
+     * Constructs a QueryRecorder that appends to the given log file with the default buffer size.
+     *
+     * @param filePath The log file to write.
+     * @throws IOException if the log file cannot be opened
+     */
+    public QueryRecorder(String filePath) throws IOException {
+        this(filePath, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a QueryRecorder that appends to the given log file. If the file already exists, a partial
+     * record left at its end by a crash is cut off and a new session is started after the complete ones.
+     * Sessions of an older log version are kept; readers handle each session by its own version.
+     *
+     * @param filePath The log file to write.
+     * @param capacity The number of records the ring buffer holds; rounded up to a power of two.
+     * @throws IOException if the log file cannot be opened
+     */
+    public QueryRecorder(String filePath, int capacity) throws IOException {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.timestamps = new long[size];
+        this.starts = new int[size];
+        this.ends = new int[size];
+        this.modes = new byte[size];
+        this.departures = new short[size];
+        this.published = new AtomicLongArray(size);
+        if (new File(filePath).length() > 0) {
+            long completeLength = QueryReplay.completeLength(filePath);
+            try (RandomAccessFile file = new RandomAccessFile(filePath, "rw")) {
+                file.setLength(completeLength);
+            }
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filePath, true)));
+        this.startNanos = System.nanoTime();
+
+        out.writeInt(FILE_MAGIC);
+        out.writeInt(FILE_VERSION);
+        out.writeLong(System.currentTimeMillis());
+
+        this.writer = new Thread(this::drain, "query-recorder");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Records one query without a departure time. Never blocks; if the buffer is full the query is dropped.
+     *
+     * @param startIndex The index of the starting building.
+     * @param endIndex The index of the destination building.
+     * @param mode The search mode used.
+     * @return true if the query was recorded, false if it was dropped
+     */
+    public boolean record(int startIndex, int endIndex, SearchEngine.Mode mode) {
+        return record(startIndex, endIndex, mode, NO_DEPARTURE);
+    }
+
+    /**
+     * Records one query. Never blocks; if the buffer is full the query is dropped.
+     *
+     * @param startIndex The index of the starting building.
+     * @param endIndex The index of the destination building.
+     * @param mode The search mode used.
+     * @param departureSlot The 15-minute slot of the week the query departed in, or {@link #NO_DEPARTURE}.
+     * @return true if the query was recorded, false if it was dropped
+     */
+    public boolean record(int startIndex, int endIndex, SearchEngine.Mode mode, int departureSlot) {
+        long timestamp = System.nanoTime() - startNanos;
+        inFlight.incrementAndGet();
+        try {
+            // Checked after registering in flight, so close either sees this caller or this caller sees close
+            if (!running) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            while (true) {
+                long sequence = head.get();
+                if (sequence - tail.get() > mask) {
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                if (head.compareAndSet(sequence, sequence + 1)) {
+                    int slot = (int) (sequence & mask);
+                    timestamps[slot] = timestamp;
+                    starts[slot] = startIndex;
+                    ends[slot] = endIndex;
+                    modes[slot] = (byte) mode.ordinal();
+                    departures[slot] = (short) departureSlot;
+                    published.lazySet(slot, sequence + 1);
+                    return true;
+                }
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of queries dropped because the buffer was full or the recorder was closed.
+     *
+     * @return The number of dropped queries.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of queries written to the log so far.
+     *
+     * @return The number of recorded queries.
+     */
+    public long getRecorded() {
+        return tail.get();
+    }
+
+    /**
+     * Writes the remaining buffered queries and closes the log.
+     *
+     * @throws IOException if the log cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        // Let callers that got past the running check finish publishing before the writer stops
+        while (inFlight.get() > 0) {
+            Thread.onSpinWait();
+        }
+        stopping = true;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        out.close();
+    }
+
+    /**
+     * Writer thread loop: copies published records to the log in sequence order, flushing whenever
+     * the buffer runs empty, until the recorder is closed and every claimed slot has been written.
+     */
+    private void drain() {
+        long next = tail.get();
+        try {
+            while (true) {
+                int slot = (int) (next & mask);
+                if (published.get(slot) == next + 1) {
+                    out.writeLong(timestamps[slot]);
+                    out.writeInt(starts[slot]);
+                    out.writeInt(ends[slot]);
+                    out.writeByte(modes[slot]);
+                    out.writeShort(departures[slot]);
+                    next++;
+                    tail.lazySet(next);
+                } else if (stopping && head.get() == next) {
+                    break;
+                } else {
+                    out.flush();
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            System.err.println("Error writing query log. Recording stopped.");
+            e.printStackTrace();
+            running = false;
+            // Nothing will drain the buffer again, so count whatever is left in it as dropped
+            dropped.addAndGet(head.get() - next);
+        }
+    }
+}
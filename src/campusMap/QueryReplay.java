@@ -0,0 +1,367 @@
+package campusMap;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The QueryReplay class drives a SearchEngine with traffic captured by {@link QueryRecorder}, so load
+ * regressions show up before deployment. Queries are replayed in recorded order across several threads,
+ * either at the recorded rate (optionally scaled) or as fast as possible, and the run reports throughput,
+ * latency percentiles, and allocation rate.
+ *
+ * When pacing, latency is measured from the time a query was due rather than when a thread picked it up,
+ * so a slow engine that falls behind schedule shows up in the percentiles.
+ */
+public class QueryReplay {
+    private long[] timestamps;
+    private int[] starts;
+    private int[] ends;
+    private byte[] modes;
+    private short[] departures;
+
+    private QueryReplay(long[] timestamps, int[] starts, int[] ends, byte[] modes, short[] departures) {
+        this.timestamps = timestamps;
+        this.starts = starts;
+        this.ends = ends;
+        this.modes = modes;
+        this.departures = departures;
+    }
+
+    /**
+     * Loads a query log written by {@link QueryRecorder}. A log may hold several recording sessions,
+     * each starting with its own header; they are replayed back to back, without the idle time
+     * between sessions. A partial record left by a crash at the end of the log is ignored.
+     *
+     * @param filePath The log file to read.
+     * @return The queries in the log.
+     * @throws IOException if the file cannot be read or is not a query log
+     */
+    public static QueryReplay load(String filePath) throws IOException {
+        LogReader reader = new LogReader((int) (new File(filePath).length() / QueryRecorder.VERSION_1_RECORD_BYTES));
+        reader.read(filePath);
+        if (reader.sessions == 0) {
+            throw new IOException("Not a query log: " + filePath);
+        }
+        int count = reader.count;
+        return new QueryReplay(Arrays.copyOf(reader.timestamps, count), Arrays.copyOf(reader.starts, count),
+                Arrays.copyOf(reader.ends, count), Arrays.copyOf(reader.modes, count),
+                Arrays.copyOf(reader.departures, count));
+    }
+
+    /**
+     * Returns the length of the log up to the end of its last complete header or record, so a recorder
+     * can cut off a partial record before appending a new session.
+     *
+     * @param filePath The log file to check.
+     * @return The length in bytes of the complete part of the log.
+     * @throws IOException if the file cannot be read or is not a query log
+     */
+    static long completeLength(String filePath) throws IOException {
+        LogReader reader = new LogReader(-1);
+        reader.read(filePath);
+        return reader.validLength;
+    }
+
+    /**
+     * Returns the number of queries in the log.
+     *
+     * @return The number of queries.
+     */
+    public int size() {
+        return timestamps.length;
+    }
+
+    /**
+     * Replays the queries against the given search engine.
+     *
+     * @param searchEngine The engine to drive; it must be built from the same data the log was recorded on.
+     * @param threads The number of threads issuing queries.
+     * @param rateScale 1 replays at the recorded rate, 2 twice as fast, and so on; 0 replays as fast as possible.
+     * @return The measurements of the run.
+     * @throws IllegalArgumentException if threads is less than one, rateScale is negative or not a number,
+     *         or the log refers to buildings the engine does not have
+     */
+    public Report run(SearchEngine searchEngine, int threads, double rateScale) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("At least one replay thread is required.");
+        }
+        if (!(rateScale >= 0)) {
+            throw new IllegalArgumentException("Rate scale must be zero or positive: " + rateScale);
+        }
+        List<Buildings> buildings = searchEngine.getCampusMap().getBuildings();
+        SearchEngine.Mode[] modeValues = SearchEngine.Mode.values();
+        for (int i = 0; i < size(); i++) {
+            if (starts[i] < 0 || starts[i] >= buildings.size() || ends[i] < 0 || ends[i] >= buildings.size()
+                    || modes[i] < 0 || modes[i] >= modeValues.length
+                    || departures[i] < QueryRecorder.NO_DEPARTURE || departures[i] >= OpeningHours.SLOTS_PER_WEEK) {
+                throw new IllegalArgumentException("Query " + i + " does not match the loaded campus map.");
+            }
+        }
+
+        // Time-aware queries are replayed in the same slot of a reference week, so they hit the same time windows
+        LocalDateTime[] departureTimes = new LocalDateTime[size()];
+        for (int i = 0; i < size(); i++) {
+            if (departures[i] != QueryRecorder.NO_DEPARTURE) {
+                departureTimes[i] = OpeningHours.timeOfSlot(departures[i]);
+            }
+        }
+
+        com.sun.management.ThreadMXBean threadBean = allocationBean();
+        long firstTimestamp = size() > 0 ? timestamps[0] : 0;
+        long[] latencies = new long[size()];
+        AtomicInteger nextQuery = new AtomicInteger();
+        AtomicLong allocatedBytes = new AtomicLong();
+        long startNanos = System.nanoTime();
+
+        Runnable worker = () -> {
+            long threadId = Thread.currentThread().getId();
+            long allocatedBefore = threadBean != null ? threadBean.getThreadAllocatedBytes(threadId) : 0;
+            int i;
+            while ((i = nextQuery.getAndIncrement()) < latencies.length) {
+                long due = System.nanoTime();
+                if (rateScale > 0) {
+                    due = startNanos + (long) ((timestamps[i] - firstTimestamp) / rateScale);
+                    long wait;
+                    while ((wait = due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                }
+                searchEngine.findShortestPath(buildings.get(starts[i]).getName(), buildings.get(ends[i]).getName(),
+                        modeValues[modes[i]], departureTimes[i]);
+                latencies[i] = System.nanoTime() - due;
+            }
+            if (threadBean != null) {
+                allocatedBytes.addAndGet(threadBean.getThreadAllocatedBytes(threadId) - allocatedBefore);
+            }
+        };
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(worker, "query-replay-" + t);
+            workers[t].start();
+        }
+        for (Thread thread : workers) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Arrays.sort(latencies);
+        return new Report(latencies, elapsedNanos, threadBean != null ? allocatedBytes.get() : -1);
+    }
+
+    /**
+     * The LogReader class walks the sessions of a query log, optionally keeping the records.
+     * A record's timestamp never starts with the magic number (that would take well over a century of
+     * recording), so the first four bytes tell a session header from a record.
+     */
+    private static class LogReader {
+        private long[] timestamps;
+        private int[] starts;
+        private int[] ends;
+        private byte[] modes;
+        private short[] departures;
+        private int count;
+        private int sessions;
+        private long validLength;
+
+        /**
+         * @param capacity The number of records to keep, or -1 to only measure the log.
+         */
+        LogReader(int capacity) {
+            if (capacity >= 0) {
+                timestamps = new long[capacity];
+                starts = new int[capacity];
+                ends = new int[capacity];
+                modes = new byte[capacity];
+                departures = new short[capacity];
+            }
+        }
+
+        void read(String filePath) throws IOException {
+            long sessionOffset = 0;
+            long lastTimestamp = 0;
+            int version = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filePath)))) {
+                while (true) {
+                    int first = in.readInt();
+                    if (first == QueryRecorder.FILE_MAGIC) {
+                        version = in.readInt();
+                        if (version != 1 && version != QueryRecorder.FILE_VERSION) {
+                            throw new IOException("Unsupported query log version: " + filePath);
+                        }
+                        in.readLong(); // recording start time, for reference only
+                        sessionOffset = lastTimestamp;
+                        sessions++;
+                        validLength += QueryRecorder.HEADER_BYTES;
+                    } else if (sessions == 0) {
+                        throw new IOException("Not a query log: " + filePath);
+                    } else {
+                        long timestamp = ((long) first << 32) | (in.readInt() & 0xFFFFFFFFL);
+                        int start = in.readInt();
+                        int end = in.readInt();
+                        byte mode = in.readByte();
+                        short departure = version == 1 ? QueryRecorder.NO_DEPARTURE : in.readShort();
+                        lastTimestamp = sessionOffset + timestamp;
+                        if (timestamps != null) {
+                            timestamps[count] = lastTimestamp;
+                            starts[count] = start;
+                            ends[count] = end;
+                            modes[count] = mode;
+                            departures[count] = departure;
+                        }
+                        count++;
+                        validLength += version == 1 ? QueryRecorder.VERSION_1_RECORD_BYTES : QueryRecorder.RECORD_BYTES;
+                    }
+                }
+            } catch (EOFException e) {
+                // End of the log, possibly in the middle of a record cut off by a crash
+            }
+        }
+    }
+
+    /**
+     * Returns the JVM's thread bean if it can measure per-thread allocation, or null otherwise.
+     */
+    private static com.sun.management.ThreadMXBean allocationBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported()) {
+                sunBean.setThreadAllocatedMemoryEnabled(true);
+                return sunBean;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The Report class holds the measurements of one replay run.
+     */
+    public static class Report {
+        private long[] sortedLatencies;
+        private long elapsedNanos;
+        private long allocatedBytes;
+
+        Report(long[] sortedLatencies, long elapsedNanos, long allocatedBytes) {
+            this.sortedLatencies = sortedLatencies;
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+        }
+
+        /**
+         * Gets the number of queries answered per second.
+         *
+         * @return the throughput
+         */
+        public double getThroughput() {
+            return sortedLatencies.length / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Gets a latency percentile.
+         *
+         * @param percentile The percentile, between 0 and 100.
+         * @return the latency in microseconds, or 0 if no queries were replayed
+         */
+        public double getLatencyMicros(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, Math.min(index, sortedLatencies.length - 1))] / 1e3;
+        }
+
+        /**
+         * Gets the bytes allocated by the replay threads per second.
+         *
+         * @return the allocation rate, or -1 if the JVM cannot measure it
+         */
+        public double getAllocationRate() {
+            return allocatedBytes < 0 ? -1 : allocatedBytes / (elapsedNanos / 1e9);
+        }
+
+        /**
+         * Returns a summary of the run.
+         *
+         * @return the throughput, latency percentiles, and allocation rate
+         */
+        @Override
+        public String toString() {
+            String allocation = allocatedBytes < 0
+                    ? "unavailable"
+                    : String.format("%.2f MB/s (%.0f bytes/query)", getAllocationRate() / 1e6,
+                            (double) allocatedBytes / Math.max(1, sortedLatencies.length));
+            return "● Queries: " + sortedLatencies.length + " in " + String.format("%.2f s", elapsedNanos / 1e9) +
+                    "\n● Throughput: " + String.format("%.0f queries/s", getThroughput()) +
+                    "\n● Latency: " + String.format("p50 %.1f µs, p90 %.1f µs, p99 %.1f µs, p99.9 %.1f µs, max %.1f µs",
+                            getLatencyMicros(50), getLatencyMicros(90), getLatencyMicros(99),
+                            getLatencyMicros(99.9), getLatencyMicros(100)) +
+                    "\n● Allocation: " + allocation;
+        }
+    }
+
+    /**
+     * Replays a query log from the command line:
+     * {@code QueryReplay <log file> [data file] [threads] [rate scale]}.
+     * Without arguments it records a synthetic log first and then replays it, for testing.
+     */
+    public static void main(String[] args) throws IOException {
+        String dataFile = args.length > 1 ? args[1] : "src/campusMap/Resources/building_connections.csv";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        double rateScale = args.length > 3 ? Double.parseDouble(args[3]) : 0;
+
+        CampusMap campusMap = new CampusMap();
+        campusMap.loadData(dataFile);
+        SearchEngine searchEngine = new SearchEngine(campusMap);
+        // Built in memory so running the harness never writes into the data directory
+        searchEngine.setLandmarkIndex(LandmarkIndex.build(searchEngine.getGraph(), 4, LandmarkIndex.Selection.AVOID));
+
+        String logFile;
+        if (args.length > 0) {
+            logFile = args[0];
+        } else {
+            File tempFile = File.createTempFile("queries", ".qlog");
+            tempFile.deleteOnExit();
+            logFile = tempFile.getPath();
+
+            List<String> names = new ArrayList<>();
+            for (Buildings building : campusMap.getBuildings()) {
+                names.add(building.getName());
+            }
+            Random random = new Random(1);
+            QueryRecorder recorder = new QueryRecorder(logFile);
+            searchEngine.setQueryRecorder(recorder);
+            for (int i = 0; i < 20_000; i++) {
+                searchEngine.findShortestPath(names.get(random.nextInt(names.size())),
+                        names.get(random.nextInt(names.size())),
+                        random.nextBoolean() ? SearchEngine.Mode.DIJKSTRA : SearchEngine.Mode.ALT,
+                        random.nextInt(4) == 0
+                                ? OpeningHours.timeOfSlot(random.nextInt(OpeningHours.SLOTS_PER_WEEK)) : null);
+            }
+            searchEngine.setQueryRecorder(null);
+            recorder.close();
+            System.out.println("Recorded " + recorder.getRecorded() + " queries, dropped " + recorder.getDropped());
+        }
+
+        QueryReplay replay = load(logFile);
+        System.out.println("Replaying " + replay.size() + " queries on " + threads + " threads"
+                + (rateScale > 0 ? " at " + rateScale + "x recorded rate" : " as fast as possible"));
+        System.out.println(replay.run(searchEngine, threads, rateScale));
+    }
+}
@@ -1,9 +1,21 @@
 package campusMap;
 
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
 import edu.princeton.cs.algs4.DijkstraSP;
 import edu.princeton.cs.algs4.DirectedEdge;
 import edu.princeton.cs.algs4.EdgeWeightedDigraph;
+import edu.princeton.cs.algs4.IndexMinPQ;
 
 /**
  * The SearchEngine class is responsible for finding the shortest path between two buildings on campus.
@@ -15,9 +27,13 @@ import edu.princeton.cs.algs4.EdgeWeightedDigraph;
  * @author Minh Vu + Jaylin Mendoza + Sheila Ortiz
  */
 public class SearchEngine {
-    private static final double WALKING_SPEED_METERS_PER_SEC = 1.25;
+    static final double WALKING_SPEED_METERS_PER_SEC = 1.25;
+    private static final int ROUTE_CACHE_SIZE = 4096;
     private EdgeWeightedDigraph graph;
     private CampusMap campusMap;
+    private LandmarkIndex landmarkIndex;
+    private volatile QueryRecorder queryRecorder;
+    private volatile Schedule schedule;
 
     /**
      * Constructor to initialize the SearchEngine with a CampusMap.
@@ -29,6 +45,7 @@ public class SearchEngine {
         this.campusMap = campusMap;
         this.graph = new EdgeWeightedDigraph(campusMap.getBuildings().size());
         createGraph();
+        this.schedule = createSchedule();
     }
 
     /**
@@ -48,6 +65,136 @@ public class SearchEngine {
         }
     }
 
+    /**
+     * Precomputes one graph variant per time window. A time window is a stretch of 15-minute slots
+     * of the week during which the same buildings and paths are open, so a handful of variants cover
+     * the whole week. Each variant leaves out closed paths and marks closed buildings, which routes
+     * may still start or end at but not cut through.
+     *
+     * @return The time windows of the week, with an empty route cache.
+     */
+    private Schedule createSchedule() {
+        List<Buildings> buildings = campusMap.getBuildings();
+        List<Path> paths = campusMap.getDistances();
+        HashMap<BitSet, Short> windowIds = new HashMap<>();
+        List<BitSet> signatures = new ArrayList<>();
+        short[] slotWindows = new short[OpeningHours.SLOTS_PER_WEEK];
+
+        for (int slot = 0; slot < OpeningHours.SLOTS_PER_WEEK; slot++) {
+            // Bits 0..V-1 mark closed buildings and the bits after them mark closed paths
+            BitSet closed = new BitSet(buildings.size() + paths.size());
+            for (int v = 0; v < buildings.size(); v++) {
+                if (!buildings.get(v).getOpeningHours().isOpenInSlot(slot)) {
+                    closed.set(v);
+                }
+            }
+            for (int p = 0; p < paths.size(); p++) {
+                if (!paths.get(p).getOpeningHours().isOpenInSlot(slot)) {
+                    closed.set(buildings.size() + p);
+                }
+            }
+            Short window = windowIds.get(closed);
+            if (window == null) {
+                window = (short) signatures.size();
+                windowIds.put(closed, window);
+                signatures.add(closed);
+            }
+            slotWindows[slot] = window;
+        }
+
+        TimeWindow[] timeWindows = new TimeWindow[signatures.size()];
+        for (int w = 0; w < timeWindows.length; w++) {
+            BitSet closed = signatures.get(w);
+            boolean[] closedBuildings = new boolean[buildings.size()];
+            for (int v = 0; v < buildings.size(); v++) {
+                closedBuildings[v] = closed.get(v);
+            }
+            EdgeWeightedDigraph variant = graph;
+            if (closed.nextSetBit(buildings.size()) != -1) {
+                variant = new EdgeWeightedDigraph(buildings.size());
+                for (int p = 0; p < paths.size(); p++) {
+                    Path path = paths.get(p);
+                    Integer startIndex = campusMap.getBuildingIndex(path.getStartLocation());
+                    Integer endIndex = campusMap.getBuildingIndex(path.getEndLocation());
+                    if (startIndex != null && endIndex != null && !closed.get(buildings.size() + p)) {
+                        variant.addEdge(new DirectedEdge(startIndex, endIndex, path.getDistance()));
+                        variant.addEdge(new DirectedEdge(endIndex, startIndex, path.getDistance()));
+                    }
+                }
+            }
+            timeWindows[w] = new TimeWindow(variant, closedBuildings);
+        }
+        return new Schedule(slotWindows, timeWindows);
+    }
+
+    /**
+     * Rebuilds the time windows from the opening hours currently set on the campus map's buildings and
+     * paths, and empties the route cache. Time windows are otherwise built once, when the engine is
+     * constructed, so call this after {@link CampusMap#loadOpeningHours(String)} or after changing
+     * opening hours on an existing engine.
+     */
+    public void refreshOpeningHours() {
+        schedule = createSchedule();
+    }
+
+    /**
+     * Returns the number of distinct time windows in the week, and so the number of graph variants.
+     *
+     * @return The number of time windows.
+     */
+    public int getTimeWindowCount() {
+        return schedule.timeWindows.length;
+    }
+
+    /**
+     * Returns the graph built from the campus map. Vertex indices match {@link CampusMap#getBuildingIndex(String)}.
+     *
+     * @return The campus graph.
+     */
+    EdgeWeightedDigraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the campus map this engine searches.
+     *
+     * @return The campus map.
+     */
+    CampusMap getCampusMap() {
+        return campusMap;
+    }
+
+    /**
+     * Attaches a landmark index so that {@link Mode#ALT} searches can use its lower bounds.
+     * The index must have been built for this engine's graph.
+     *
+     * @param landmarkIndex The landmark index, or null to disable ALT searches.
+     */
+    public void setLandmarkIndex(LandmarkIndex landmarkIndex) {
+        this.landmarkIndex = landmarkIndex;
+        schedule.routeCache.clear();
+    }
+
+    /**
+     * Loads the landmark index stored at the given file, or builds and stores it if the file is missing
+     * or was built for a different graph, and attaches it to this engine.
+     *
+     * @param landmarkFilePath The file the landmark distance tables are persisted in.
+     * @param landmarkCount The number of landmarks to select when building.
+     */
+    public void useLandmarks(String landmarkFilePath, int landmarkCount) {
+        setLandmarkIndex(LandmarkIndex.loadOrBuild(landmarkFilePath, graph, landmarkCount, LandmarkIndex.Selection.AVOID));
+    }
+
+    /**
+     * Attaches a recorder that captures every valid query this engine answers.
+     *
+     * @param queryRecorder The recorder, or null to stop recording.
+     */
+    public void setQueryRecorder(QueryRecorder queryRecorder) {
+        this.queryRecorder = queryRecorder;
+    }
+
     /**
      * Finds the shortest path between two buildings using Dijkstra's algorithm.
      *
@@ -56,34 +203,254 @@ public class SearchEngine {
      * @return A String of building names representing the shortest path, or an empty list if no path is found.
      */
     public String findShortestPath(String start, String end) {
-        int startIndex = campusMap.getBuildingIndex(start);
-        int endIndex = campusMap.getBuildingIndex(end);
+        return findShortestPath(start, end, Mode.DIJKSTRA);
+    }
+
+    /**
+     * Finds the shortest path between two buildings using the given search mode.
+     * Both modes return the same shortest distance; ALT only settles fewer buildings on the way.
+     *
+     * @param start The full name of the starting building.
+     * @param end The full name of the destination building.
+     * @param mode The search algorithm to use.
+     * @return A String of building names representing the shortest path, or an error message.
+     */
+    public String findShortestPath(String start, String end, Mode mode) {
+        return findShortestPath(start, end, mode, null);
+    }
+
+    /**
+     * Finds the shortest path between two buildings for someone leaving at the given time. Closed paths
+     * are not used, and closed buildings can be started from or walked to but not cut through.
+     * The buildings and paths open at departure are assumed to stay open for the rest of the walk.
+     *
+     * Results for a departure time are cached per time window, so every departure in the same window
+     * shares one cache entry.
+     *
+     * @param start The full name of the starting building.
+     * @param end The full name of the destination building.
+     * @param mode The search algorithm to use.
+     * @param departure The departure time, or null to ignore opening hours.
+     * @return A String of building names representing the shortest path, or an error message.
+     */
+    public String findShortestPath(String start, String end, Mode mode, LocalDateTime departure) {
+        Integer startIndex = campusMap.getBuildingIndex(start);
+        Integer endIndex = campusMap.getBuildingIndex(end);
 
-        if (startIndex == -1 || endIndex == -1) {
+        if (startIndex == null || endIndex == null) {
             return "Error: Invalid building name(s). Please check the input.";
         }
 
-        // Compute shortest path using Dijkstra's algorithm
-        DijkstraSP sp = new DijkstraSP(graph, startIndex);
-        if (sp.hasPathTo(endIndex)) {
-            StringBuilder result = new StringBuilder();
-            for (DirectedEdge edge : sp.pathTo(endIndex)) {
-                result.append(campusMap.getBuildings().get(edge.from()).getName()).append(" → ");
+        if (mode == Mode.ALT && landmarkIndex == null) {
+            return "Error: ALT search requires a landmark index.";
+        }
+
+        QueryRecorder recorder = queryRecorder;
+        if (recorder != null) {
+            recorder.record(startIndex, endIndex, mode,
+                    departure == null ? QueryRecorder.NO_DEPARTURE : OpeningHours.slotOf(departure));
+        }
+
+        if (departure == null) {
+            if (mode == Mode.ALT) {
+                Route route = search(startIndex, endIndex, landmarkIndex);
+                if (route == null) {
+                    return "No path found between " + start + " and " + end + ".";
+                }
+                return formatRoute(route.getEdges(), endIndex, route.getDistance());
+            }
+
+            // Compute shortest path using Dijkstra's algorithm
+            DijkstraSP sp = new DijkstraSP(graph, startIndex);
+            if (sp.hasPathTo(endIndex)) {
+                return formatRoute(sp.pathTo(endIndex), endIndex, sp.distTo(endIndex));
+            } else {
+                return "No path found between " + start + " and " + end + ".";
+            }
+        }
+
+        Schedule current = schedule;
+        int window = current.slotWindows[OpeningHours.slotOf(departure)];
+        int vertexCount = graph.V();
+        long cacheKey = (((long) window * Mode.values().length + mode.ordinal()) * vertexCount + startIndex)
+                * vertexCount + endIndex;
+        String cached = current.routeCache.get(cacheKey);
+        if (cached != null) {
+            return cached;
+        }
+
+        TimeWindow timeWindow = current.timeWindows[window];
+        Route route = search(timeWindow.graph, timeWindow.closedBuildings, startIndex, endIndex,
+                mode == Mode.ALT ? landmarkIndex : null);
+        String result = route == null
+                ? "No path found between " + start + " and " + end + "."
+                : formatRoute(route.getEdges(), endIndex, route.getDistance());
+        current.routeCache.put(cacheKey, result);
+        return result;
+    }
+
+    /**
+     * Formats a route as building names followed by its distance and approximate walking time.
+     */
+    private String formatRoute(Iterable<DirectedEdge> edges, int endIndex, double totalDistance) {
+        StringBuilder result = new StringBuilder();
+        for (DirectedEdge edge : edges) {
+            result.append(campusMap.getBuildings().get(edge.from()).getName()).append(" → ");
+        }
+        result.append(campusMap.getBuildings().get(endIndex).getName());
+
+        // Calculate approximate walking time
+        double approximateTimeMinutes = (totalDistance / WALKING_SPEED_METERS_PER_SEC) / 60;
+
+        return result.toString() +
+                "\n● Distance: " + String.format("%.2f meters", totalDistance) +
+                "\n● Approximate time: " + String.format("%.2f mins", approximateTimeMinutes);
+    }
+
+    /**
+     * Runs a point-to-point search that stops as soon as the destination is settled.
+     * With a landmark index this is A* using the landmark lower bounds (ALT); without one it is
+     * plain Dijkstra. The number of settled buildings is recorded so the two can be compared.
+     *
+     * @param startIndex The index of the starting building.
+     * @param endIndex The index of the destination building.
+     * @param landmarks The landmark index to take lower bounds from, or null for plain Dijkstra.
+     * @return The route found, or null if the destination cannot be reached.
+     */
+    Route search(int startIndex, int endIndex, LandmarkIndex landmarks) {
+        return search(graph, null, startIndex, endIndex, landmarks);
+    }
+
+    /**
+     * Runs a point-to-point search on a time window's graph variant. Closed buildings are never expanded,
+     * so routes cannot pass through them. Landmark bounds computed on the full graph stay valid here,
+     * since closing paths and buildings can only make routes longer.
+     *
+     * @param graph The graph variant to search.
+     * @param closedBuildings The buildings that cannot be cut through, or null if all are open.
+     * @param startIndex The index of the starting building.
+     * @param endIndex The index of the destination building.
+     * @param landmarks The landmark index to take lower bounds from, or null for plain Dijkstra.
+     * @return The route found, or null if the destination cannot be reached.
+     */
+    private Route search(EdgeWeightedDigraph graph, boolean[] closedBuildings, int startIndex, int endIndex,
+            LandmarkIndex landmarks) {
+        int vertexCount = graph.V();
+        double[] distTo = new double[vertexCount];
+        DirectedEdge[] edgeTo = new DirectedEdge[vertexCount];
+        Arrays.fill(distTo, Double.POSITIVE_INFINITY);
+        double[] targetBounds = landmarks == null ? null : landmarks.targetBounds(endIndex);
+
+        IndexMinPQ<Double> pq = new IndexMinPQ<>(vertexCount);
+        distTo[startIndex] = 0;
+        pq.insert(startIndex, lowerBound(landmarks, targetBounds, startIndex));
+        int settled = 0;
+        while (!pq.isEmpty()) {
+            int v = pq.delMin();
+            settled++;
+            if (v == endIndex) {
+                LinkedList<DirectedEdge> edges = new LinkedList<>();
+                for (DirectedEdge e = edgeTo[endIndex]; e != null; e = edgeTo[e.from()]) {
+                    edges.addFirst(e);
+                }
+                return new Route(edges, distTo[endIndex], settled);
             }
-            result.append(campusMap.getBuildings().get(endIndex).getName());
+            if (closedBuildings != null && closedBuildings[v] && v != startIndex) {
+                continue;
+            }
+            for (DirectedEdge edge : graph.adj(v)) {
+                int w = edge.to();
+                double candidate = distTo[v] + edge.weight();
+                if (candidate < distTo[w]) {
+                    distTo[w] = candidate;
+                    edgeTo[w] = edge;
+                    double key = candidate + lowerBound(landmarks, targetBounds, w);
+                    if (pq.contains(w)) {
+                        pq.decreaseKey(w, key);
+                    } else {
+                        pq.insert(w, key);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private static double lowerBound(LandmarkIndex landmarks, double[] targetBounds, int v) {
+        return landmarks == null ? 0 : landmarks.lowerBound(v, targetBounds);
+    }
+
+    /**
+     * The search algorithms a shortest path query can use.
+     */
+    public enum Mode {
+        /** Dijkstra's algorithm over the whole graph. */
+        DIJKSTRA,
+        /** A* guided by landmark lower bounds; needs a {@link LandmarkIndex}. */
+        ALT
+    }
 
-            // Calculate total distance and approximate walking time
-            double totalDistance = sp.distTo(endIndex);
-            double approximateTimeMinutes = (totalDistance / WALKING_SPEED_METERS_PER_SEC) / 60;
+    /**
+     * The Schedule class holds the time windows of the week and the route cache keyed on them. They are
+     * replaced together, so a query never mixes windows from before and after a refresh.
+     */
+    private static class Schedule {
+        private short[] slotWindows;
+        private TimeWindow[] timeWindows;
+        private Map<Long, String> routeCache;
 
-            return result.toString() +
-                    "\n● Distance: " + String.format("%.2f meters", totalDistance) +
-                    "\n● Approximate time: " + String.format("%.2f mins", approximateTimeMinutes);
-        } else {
-            return "No path found between " + start + " and " + end + ".";
+        Schedule(short[] slotWindows, TimeWindow[] timeWindows) {
+            this.slotWindows = slotWindows;
+            this.timeWindows = timeWindows;
+            this.routeCache = Collections.synchronizedMap(new LinkedHashMap<Long, String>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                    return size() > ROUTE_CACHE_SIZE;
+                }
+            });
         }
     }
 
+    /**
+     * The TimeWindow class holds the graph variant for one time window and the buildings closed during it.
+     */
+    private static class TimeWindow {
+        private EdgeWeightedDigraph graph;
+        private boolean[] closedBuildings;
+
+        TimeWindow(EdgeWeightedDigraph graph, boolean[] closedBuildings) {
+            this.graph = graph;
+            this.closedBuildings = closedBuildings;
+        }
+    }
+
+    /**
+     * The Route class holds the edges of a shortest path, its distance, and how many buildings
+     * the search settled to find it.
+     */
+    static class Route {
+        private List<DirectedEdge> edges;
+        private double distance;
+        private int settled;
+
+        Route(List<DirectedEdge> edges, double distance, int settled) {
+            this.edges = edges;
+            this.distance = distance;
+            this.settled = settled;
+        }
+
+        List<DirectedEdge> getEdges() {
+            return edges;
+        }
+
+        double getDistance() {
+            return distance;
+        }
+
+        int getSettled() {
+            return settled;
+        }
+    }
 
     /**
      * Main method for testing the functionality of the SearchEngine.
@@ -97,6 +464,16 @@ public class SearchEngine {
 
         System.out.println(searchEngine.findShortestPath("AA - Alder Amphitheater", "AAB - Academic & Administration Building"));
         System.out.println(searchEngine.findShortestPath("GMBB - Gail Miller Business Building", "STC - Student Center"));
-        
+
+        searchEngine.useLandmarks("src/campusMap/Resources/building_connections.landmarks", 4);
+        System.out.println(searchEngine.findShortestPath("ECDL - Eccles Early Childhood Lab School", "GFSB - Gundersen Facilities Services Building", Mode.ALT));
+
+        campusMap.loadOpeningHours("src/campusMap/Resources/building_hours.csv");
+        searchEngine.refreshOpeningHours();
+        System.out.println("\nTime windows: " + searchEngine.getTimeWindowCount());
+        LocalDateTime weekdayNoon = LocalDateTime.of(2024, 9, 4, 12, 0);
+        LocalDateTime saturdayEvening = LocalDateTime.of(2024, 9, 7, 19, 0);
+        System.out.println("Wednesday 12:00: " + searchEngine.findShortestPath("AA - Alder Amphitheater", "CT - Construction Trades", Mode.DIJKSTRA, weekdayNoon));
+        System.out.println("Saturday 19:00: " + searchEngine.findShortestPath("AA - Alder Amphitheater", "CT - Construction Trades", Mode.DIJKSTRA, saturdayEvening));
     }
 }
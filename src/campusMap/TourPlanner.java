@@ -0,0 +1,405 @@
+package campusMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import edu.princeton.cs.algs4.DijkstraSP;
+import edu.princeton.cs.algs4.DirectedEdge;
+
+/**
+ * The TourPlanner class finds a good order in which to visit a set of buildings, for campus tours and
+ * facilities rounds. It computes the distances between every pair of stops with one Dijkstra search per
+ * stop (run in parallel), then solves the visiting order.
+ *
+ * Small tours are solved exactly with the Held-Karp dynamic program. Larger tours, or tours whose exact
+ * solution does not finish in time, are solved with nearest-neighbour construction improved by 2-opt and
+ * Or-opt moves until the time budget runs out. The first stop is always the starting point.
+ */
+public class TourPlanner {
+    /** Largest number of stops solved exactly; Held-Karp needs 2^(n-1) * (n-1) table entries. */
+    private static final int HELD_KARP_MAX_STOPS = 13;
+    /** Time budget used when the caller does not give one, short enough for interactive use. */
+    public static final long DEFAULT_TIME_BUDGET_MILLIS = 50;
+
+    private SearchEngine searchEngine;
+
+    /**
+     * Constructs a TourPlanner that searches the graph of the given SearchEngine.
+     *
+     * @param searchEngine The search engine whose campus graph is used.
+     */
+    public TourPlanner(SearchEngine searchEngine) {
+        this.searchEngine = searchEngine;
+    }
+
+    /**
+     * Plans a tour using the default time budget.
+     *
+     * @param stops The full names of the buildings to visit. The first one is the starting point.
+     * @param returnToStart True if the tour must end back at the first stop.
+     * @return The planned tour.
+     * @throws IllegalArgumentException if a stop is unknown or two stops are not connected
+     */
+    public Tour planTour(List<String> stops, boolean returnToStart) {
+        return planTour(stops, returnToStart, DEFAULT_TIME_BUDGET_MILLIS);
+    }
+
+    /**
+     * Plans the visiting order for the given stops and stitches the full route together.
+     * The best order found before the time budget runs out is returned; it is only guaranteed
+     * to be optimal if {@link Tour#isOptimal()} is true.
+     *
+     * @param stops The full names of the buildings to visit. The first one is the starting point.
+     * @param returnToStart True if the tour must end back at the first stop.
+     * @param timeBudgetMillis The time the caller is willing to wait, in milliseconds.
+     * @return The planned tour.
+     * @throws IllegalArgumentException if a stop is unknown or two stops are not connected
+     */
+    public Tour planTour(List<String> stops, boolean returnToStart, long timeBudgetMillis) {
+        long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+        CampusMap campusMap = searchEngine.getCampusMap();
+
+        // Duplicate stops would only make the tour longer, so keep the first occurrence of each building,
+        // comparing resolved buildings rather than names so different spellings of one building count once
+        LinkedHashSet<Integer> uniqueVertices = new LinkedHashSet<>();
+        for (String stop : stops) {
+            Integer index = campusMap.getBuildingIndex(stop);
+            if (index == null) {
+                throw new IllegalArgumentException("Invalid building name: " + stop);
+            }
+            uniqueVertices.add(index);
+        }
+        int n = uniqueVertices.size();
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one stop is required.");
+        }
+        int[] vertices = new int[n];
+        List<String> uniqueStops = new ArrayList<>();
+        for (int vertex : uniqueVertices) {
+            vertices[uniqueStops.size()] = vertex;
+            uniqueStops.add(campusMap.getBuildings().get(vertex).getName());
+        }
+
+        // One single-source search per stop; the graph is only read, so the searches can run in parallel
+        DijkstraSP[] searches = new DijkstraSP[n];
+        IntStream.range(0, n).parallel()
+                .forEach(i -> searches[i] = new DijkstraSP(searchEngine.getGraph(), vertices[i]));
+
+        double[][] dist = new double[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                if (!searches[i].hasPathTo(vertices[j])) {
+                    throw new IllegalArgumentException("No path found between " + uniqueStops.get(i)
+                            + " and " + uniqueStops.get(j) + ".");
+                }
+                dist[i][j] = searches[i].distTo(vertices[j]);
+            }
+        }
+
+        int[] order = null;
+        boolean optimal = false;
+        if (n <= HELD_KARP_MAX_STOPS) {
+            order = solveHeldKarp(dist, returnToStart, deadline);
+            optimal = order != null;
+        }
+        if (order == null) {
+            order = solveHeuristic(dist, returnToStart, deadline);
+        }
+
+        // Stitch the stop-to-stop shortest paths into one route
+        List<String> orderedStops = new ArrayList<>();
+        List<String> route = new ArrayList<>();
+        route.add(uniqueStops.get(order[0]));
+        int legs = returnToStart && n > 1 ? n : n - 1;
+        for (int i = 0; i < n; i++) {
+            orderedStops.add(uniqueStops.get(order[i]));
+        }
+        for (int i = 0; i < legs; i++) {
+            int from = order[i];
+            int to = order[(i + 1) % n];
+            for (DirectedEdge edge : searches[from].pathTo(vertices[to])) {
+                route.add(campusMap.getBuildings().get(edge.to()).getName());
+            }
+        }
+        return new Tour(orderedStops, route, tourCost(order, dist, returnToStart), optimal);
+    }
+
+    /**
+     * Solves the visiting order exactly with the Held-Karp dynamic program.
+     * Stop 0 is fixed as the start; bit i of a subset stands for stop i + 1.
+     *
+     * @return The optimal order, or null if the deadline passed first.
+     */
+    private static int[] solveHeldKarp(double[][] dist, boolean returnToStart, long deadline) {
+        int n = dist.length;
+        if (n == 1) {
+            return new int[] {0};
+        }
+        int m = n - 1;
+        int subsets = 1 << m;
+        double[][] cost = new double[subsets][m];
+        int[][] parent = new int[subsets][m];
+        for (double[] row : cost) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        for (int j = 0; j < m; j++) {
+            cost[1 << j][j] = dist[0][j + 1];
+            parent[1 << j][j] = -1;
+        }
+
+        for (int subset = 1; subset < subsets; subset++) {
+            if (System.nanoTime() > deadline) {
+                return null;
+            }
+            for (int last = 0; last < m; last++) {
+                if ((subset & (1 << last)) == 0 || cost[subset][last] == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int next = 0; next < m; next++) {
+                    if ((subset & (1 << next)) != 0) {
+                        continue;
+                    }
+                    int extended = subset | (1 << next);
+                    double candidate = cost[subset][last] + dist[last + 1][next + 1];
+                    if (candidate < cost[extended][next]) {
+                        cost[extended][next] = candidate;
+                        parent[extended][next] = last;
+                    }
+                }
+            }
+        }
+
+        int full = subsets - 1;
+        int bestLast = 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int last = 0; last < m; last++) {
+            double total = cost[full][last] + (returnToStart ? dist[last + 1][0] : 0);
+            if (total < best) {
+                best = total;
+                bestLast = last;
+            }
+        }
+
+        int[] order = new int[n];
+        int subset = full;
+        int last = bestLast;
+        for (int position = n - 1; position > 0; position--) {
+            order[position] = last + 1;
+            int previous = parent[subset][last];
+            subset &= ~(1 << last);
+            last = previous;
+        }
+        return order;
+    }
+
+    /**
+     * Builds a nearest-neighbour tour and improves it with 2-opt and Or-opt moves
+     * until no move helps or the deadline passes.
+     *
+     * @return The best order found.
+     */
+    private static int[] solveHeuristic(double[][] dist, boolean returnToStart, long deadline) {
+        int n = dist.length;
+        int[] order = new int[n];
+        boolean[] visited = new boolean[n];
+        visited[0] = true;
+        for (int position = 1; position < n; position++) {
+            int current = order[position - 1];
+            int nearest = -1;
+            for (int candidate = 0; candidate < n; candidate++) {
+                if (!visited[candidate] && (nearest == -1 || dist[current][candidate] < dist[current][nearest])) {
+                    nearest = candidate;
+                }
+            }
+            order[position] = nearest;
+            visited[nearest] = true;
+        }
+
+        double bestCost = tourCost(order, dist, returnToStart);
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = false;
+
+            // 2-opt: reverse the segment between positions i and k
+            for (int i = 1; i < n - 1 && System.nanoTime() < deadline; i++) {
+                for (int k = i + 1; k < n; k++) {
+                    reverse(order, i, k);
+                    double candidate = tourCost(order, dist, returnToStart);
+                    if (candidate < bestCost - 1e-9) {
+                        bestCost = candidate;
+                        improved = true;
+                    } else {
+                        reverse(order, i, k);
+                    }
+                }
+            }
+
+            // Or-opt: move a run of one to three stops to another position
+            for (int length = 1; length <= 3 && System.nanoTime() < deadline; length++) {
+                for (int from = 1; from + length <= n; from++) {
+                    for (int to = 1; to + length <= n; to++) {
+                        if (to == from) {
+                            continue;
+                        }
+                        int[] candidateOrder = moveSegment(order, from, length, to);
+                        double candidate = tourCost(candidateOrder, dist, returnToStart);
+                        if (candidate < bestCost - 1e-9) {
+                            order = candidateOrder;
+                            bestCost = candidate;
+                            improved = true;
+                        }
+                    }
+                }
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Computes the length of a tour for the given order of stops.
+     */
+    private static double tourCost(int[] order, double[][] dist, boolean returnToStart) {
+        double total = 0;
+        for (int i = 0; i + 1 < order.length; i++) {
+            total += dist[order[i]][order[i + 1]];
+        }
+        if (returnToStart && order.length > 1) {
+            total += dist[order[order.length - 1]][order[0]];
+        }
+        return total;
+    }
+
+    /**
+     * Reverses the stops between positions i and k, inclusive.
+     */
+    private static void reverse(int[] order, int i, int k) {
+        while (i < k) {
+            int temp = order[i];
+            order[i++] = order[k];
+            order[k--] = temp;
+        }
+    }
+
+    /**
+     * Returns a copy of the order with the run of stops starting at {@code from} moved so that it starts at {@code to}.
+     */
+    private static int[] moveSegment(int[] order, int from, int length, int to) {
+        int[] rest = new int[order.length - length];
+        int size = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i < from || i >= from + length) {
+                rest[size++] = order[i];
+            }
+        }
+        int[] result = new int[order.length];
+        System.arraycopy(rest, 0, result, 0, to);
+        System.arraycopy(order, from, result, to, length);
+        System.arraycopy(rest, to, result, to + length, rest.length - to);
+        return result;
+    }
+
+    /**
+     * The Tour class holds the result of a tour plan: the order of the stops, the full route
+     * through every building walked past, and the total distance.
+     */
+    public static class Tour {
+        private List<String> stops;
+        private List<String> route;
+        private double totalDistance;
+        private boolean optimal;
+
+        /**
+         * Constructs a Tour with the given stops, route, and distance.
+         *
+         * @param stops The stops in visiting order.
+         * @param route Every building on the route, including the stops.
+         * @param totalDistance The total distance of the route in meters.
+         * @param optimal True if the order was proven optimal.
+         */
+        public Tour(List<String> stops, List<String> route, double totalDistance, boolean optimal) {
+            this.stops = Collections.unmodifiableList(stops);
+            this.route = Collections.unmodifiableList(route);
+            this.totalDistance = totalDistance;
+            this.optimal = optimal;
+        }
+
+        /**
+         * Gets the stops in visiting order.
+         *
+         * @return the names of the stops
+         */
+        public List<String> getStops() {
+            return stops;
+        }
+
+        /**
+         * Gets the full route, including buildings walked past between stops.
+         *
+         * @return the names of the buildings on the route
+         */
+        public List<String> getRoute() {
+            return route;
+        }
+
+        /**
+         * Gets the total distance of the route.
+         *
+         * @return the distance in meters
+         */
+        public double getTotalDistance() {
+            return totalDistance;
+        }
+
+        /**
+         * Tells whether the order was solved exactly.
+         *
+         * @return true if the order is optimal, false if it came from the time-budgeted heuristic
+         */
+        public boolean isOptimal() {
+            return optimal;
+        }
+
+        /**
+         * Returns a string representation of the tour in the same format as {@link SearchEngine#findShortestPath}.
+         *
+         * @return the route, distance, and approximate walking time
+         */
+        @Override
+        public String toString() {
+            double approximateTimeMinutes = (totalDistance / SearchEngine.WALKING_SPEED_METERS_PER_SEC) / 60;
+            return String.join(" → ", route) +
+                    "\n● Distance: " + String.format("%.2f meters", totalDistance) +
+                    "\n● Approximate time: " + String.format("%.2f mins", approximateTimeMinutes) +
+                    "\n● Order: " + (optimal ? "optimal" : "best found within time budget");
+        }
+    }
+
+    /**
+     * Main method for testing the functionality of the TourPlanner.
+     */
+    public static void main(String[] args) {
+        CampusMap campusMap = new CampusMap();
+        campusMap.loadData("src/campusMap/Resources/building_connections.csv");
+
+        TourPlanner planner = new TourPlanner(new SearchEngine(campusMap));
+
+        List<String> stops = Arrays.asList(
+                "STC - Student Center",
+                "LIB - Markosian Library",
+                "CT - Construction Trades",
+                "GMBB - Gail Miller Business Building",
+                "LAC - Lifetime Activities Center");
+        System.out.println(planner.planTour(stops, true));
+        System.out.println();
+
+        List<String> allBuildings = new ArrayList<>();
+        for (Buildings building : campusMap.getBuildings()) {
+            allBuildings.add(building.getName());
+        }
+        System.out.println(planner.planTour(allBuildings, false, 0));
+    }
+}